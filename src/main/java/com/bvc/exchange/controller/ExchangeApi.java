@@ -1,6 +1,7 @@
 package com.bvc.exchange.controller;
 
 import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
 import com.bvc.exchange.exception.SymbolExchangeApiNotFoundException;
 import com.bvc.exchange.model.CurrencyRate;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,37 +11,50 @@ import java.util.List;
 import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @Tag(name = "Exchange Operations", description = "APIs related to currency exchange operations")
 public interface ExchangeApi {
 
+  String SNAPSHOT_VERSION_HEADER = "X-Rate-Snapshot-Version";
+  String SNAPSHOT_VERSION_DESCRIPTION = "Rates snapshot version returned in the " + SNAPSHOT_VERSION_HEADER +
+      " header of a previous response. When set, the result is computed from that same snapshot.";
+
   @GetMapping("/exchange-rate")
   @Operation(summary = "Get the exchange rate from a base currency to another currency")
   ResponseEntity<Double> getRate(
       @Parameter(description = "Base currency code", required = true) @RequestParam String base,
-      @Parameter(description = "Target currency code", required = true) @RequestParam String currency)
-          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException;
+      @Parameter(description = "Target currency code", required = true) @RequestParam String currency,
+      @Parameter(description = SNAPSHOT_VERSION_DESCRIPTION)
+      @RequestHeader(name = SNAPSHOT_VERSION_HEADER, required = false) Long version)
+          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException;
 
   @GetMapping("/exchange-rates")
   @Operation(summary = "Get all exchange rates for a base currency")
   ResponseEntity<CurrencyRate> getAllExchangeRates(
-      @Parameter(description = "Base currency code", required = true) @RequestParam String base)
-          throws BadExchangeApiResponseException;
+      @Parameter(description = "Base currency code", required = true) @RequestParam String base,
+      @Parameter(description = SNAPSHOT_VERSION_DESCRIPTION)
+      @RequestHeader(name = SNAPSHOT_VERSION_HEADER, required = false) Long version)
+          throws BadExchangeApiResponseException, SnapshotVersionNotFoundException;
 
   @GetMapping("/exchange-conversion")
   @Operation(summary = "Convert a given amount from a base currency to another currency")
   ResponseEntity<Double> convert(
       @Parameter(description = "Base currency code", required = true) @RequestParam String base,
       @Parameter(description = "Target currency code", required = true) @RequestParam String currency,
-      @Parameter(description = "Amount to convert", required = true) @RequestParam Double amount)
-          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException;
+      @Parameter(description = "Amount to convert", required = true) @RequestParam Double amount,
+      @Parameter(description = SNAPSHOT_VERSION_DESCRIPTION)
+      @RequestHeader(name = SNAPSHOT_VERSION_HEADER, required = false) Long version)
+          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException;
 
   @GetMapping("/exchange-conversions")
   @Operation(summary = "Convert a given amount from a base currency to multiple other currencies")
   ResponseEntity<Map<String, Double>> convertToMultipleCurrencies(
       @Parameter(description = "Base currency code", required = true) @RequestParam String base,
       @Parameter(description = "List of target currency codes", required = true) @RequestParam List<String> currencies,
-      @Parameter(description = "Amount to convert", required = true) @RequestParam Double amount)
-          throws SymbolExchangeApiNotFoundException, BadExchangeApiResponseException;
+      @Parameter(description = "Amount to convert", required = true) @RequestParam Double amount,
+      @Parameter(description = SNAPSHOT_VERSION_DESCRIPTION)
+      @RequestHeader(name = SNAPSHOT_VERSION_HEADER, required = false) Long version)
+          throws SymbolExchangeApiNotFoundException, BadExchangeApiResponseException, SnapshotVersionNotFoundException;
 }
@@ -1,8 +1,10 @@
 package com.bvc.exchange.controller;
 
 import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
 import com.bvc.exchange.exception.SymbolExchangeApiNotFoundException;
 import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
 import com.bvc.exchange.service.ExchangeService;
 import java.util.List;
 import java.util.Map;
@@ -22,26 +24,40 @@ public class ExchangeController implements ExchangeApi {
   }
 
   @GetMapping("/exchange-rate")
-  public ResponseEntity<Double> getRate(String base, String currency) throws BadExchangeApiResponseException,
-          SymbolExchangeApiNotFoundException {
-    return ResponseEntity.ok(exchangeService.getRateForBaseToSymbol(base, currency));
+  public ResponseEntity<Double> getRate(String base, String currency, Long version)
+          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
+    RateSnapshot rates = resolveRates(base, version);
+    return okWithVersion(rates).body(exchangeService.getRateForBaseToSymbol(rates, currency));
   }
 
   @GetMapping("/exchange-rates")
-  public ResponseEntity<CurrencyRate> getAllExchangeRates(String base) throws BadExchangeApiResponseException {
-    return ResponseEntity.ok(exchangeService.getRatesForBase(base));
+  public ResponseEntity<CurrencyRate> getAllExchangeRates(String base, Long version)
+          throws BadExchangeApiResponseException, SnapshotVersionNotFoundException {
+    RateSnapshot rates = resolveRates(base, version);
+    return okWithVersion(rates).body(rates.toCurrencyRate());
   }
 
   @GetMapping("/exchange-conversion")
-  public ResponseEntity<Double> convert(String base, String currency, Double amount)
-          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
-    return ResponseEntity.ok(exchangeService.convertValue(base, currency, amount));
+  public ResponseEntity<Double> convert(String base, String currency, Double amount, Long version)
+          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
+    RateSnapshot rates = resolveRates(base, version);
+    return okWithVersion(rates).body(exchangeService.convertValue(rates, currency, amount));
   }
 
   @GetMapping("/exchange-conversions")
   public ResponseEntity<Map<String, Double>> convertToMultipleCurrencies(String base, List<String> currencies,
-                                                                         Double amount)
-          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
-    return ResponseEntity.ok(exchangeService.convertToMultipleCurrencies(base, currencies, amount));
+                                                                         Double amount, Long version)
+          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
+    RateSnapshot rates = resolveRates(base, version);
+    return okWithVersion(rates).body(exchangeService.convertToMultipleCurrencies(rates, currencies, amount));
+  }
+
+  private RateSnapshot resolveRates(String base, Long version)
+          throws BadExchangeApiResponseException, SnapshotVersionNotFoundException {
+    return version == null ? exchangeService.getRatesForBase(base) : exchangeService.getPinnedRatesForBase(base, version);
+  }
+
+  private static ResponseEntity.BodyBuilder okWithVersion(RateSnapshot rates) {
+    return ResponseEntity.ok().header(SNAPSHOT_VERSION_HEADER, String.valueOf(rates.getVersion()));
   }
 }
@@ -0,0 +1,7 @@
+package com.bvc.exchange.exception;
+
+public class SnapshotVersionNotFoundException extends Exception {
+    public SnapshotVersionNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bvc.exchange.exception.handler;
 
 import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
 import com.bvc.exchange.exception.SymbolExchangeApiNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,4 +31,9 @@ public class ExchangeExceptionHandler {
     public ResponseEntity<String> handleSymbolExchangeApiNotFoundException(Exception e) {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(SnapshotVersionNotFoundException.class)
+    public ResponseEntity<String> handleSnapshotVersionNotFoundException(Exception e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+    }
 }
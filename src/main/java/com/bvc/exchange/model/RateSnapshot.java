@@ -0,0 +1,60 @@
+package com.bvc.exchange.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of the quotes received from Exchange API for a base currency, tagged with a monotonic version.
+ * Clients can pin the version on subsequent calls to get results computed from the very same quotes.
+ */
+public final class RateSnapshot {
+  private final long version;
+  private final String base;
+  private final String source;
+  private final Map<String, Double> quotes;
+
+  public RateSnapshot(long version, String base, CurrencyRate rates) {
+    this.version = version;
+    this.base = base;
+    this.source = rates.getSource();
+    // copied into a HashMap as Map.copyOf rejects the null quotes Exchange API may send for some symbols
+    this.quotes = Collections.unmodifiableMap(new HashMap<>(rates.getQuotes()));
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public String getBase() {
+    return base;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public Map<String, Double> getQuotes() {
+    return quotes;
+  }
+
+  /**
+   * Creates a new {@link CurrencyRate} backed by the immutable quotes of this snapshot, without copying them.
+   */
+  public CurrencyRate toCurrencyRate() {
+    CurrencyRate currencyRate = new CurrencyRate();
+    currencyRate.setSource(source);
+    currencyRate.setQuotes(quotes);
+    return currencyRate;
+  }
+
+  @Override
+  public String toString() {
+    return "RateSnapshot{" +
+        "version=" + version +
+        ", base='" + base + '\'' +
+        ", source='" + source + '\'' +
+        ", quotes=" + quotes +
+        '}';
+  }
+}
@@ -1,8 +1,10 @@
 package com.bvc.exchange.service;
 
 import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
 import com.bvc.exchange.exception.SymbolExchangeApiNotFoundException;
 import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,12 +29,17 @@ public class ExchangeService {
 
   private final RestTemplate restTemplate;
 
-  public ExchangeService(RestTemplate restTemplate) {
+  private final RateSnapshotStore rateSnapshotStore;
+
+  public ExchangeService(RestTemplate restTemplate, RateSnapshotStore rateSnapshotStore) {
     this.restTemplate = restTemplate;
+    this.rateSnapshotStore = rateSnapshotStore;
   }
 
-  @Cacheable(value = "exchangeRates", key = "#base")
-  public CurrencyRate getRatesForBase(String base) throws BadExchangeApiResponseException {
+  // sync keeps a single upstream call per base, so the cached snapshot is always the latest one published for it
+  // and therefore can always be pinned
+  @Cacheable(value = "exchangeRates", key = "#base", sync = true)
+  public RateSnapshot getRatesForBase(String base) throws BadExchangeApiResponseException {
     String liveUrl = String.format("%s?access_key=%s&source=%s", exchangeApiUrl, exchangeAccessKey, base);
     CurrencyRate currencyRate = restTemplate.getForObject(liveUrl, CurrencyRate.class);
 
@@ -41,37 +48,36 @@ public class ExchangeService {
       throw new BadExchangeApiResponseException("Unexpected API response! Either you asked for non-existent base " +
               "currency, either bad response received from Exchange API!");
     }
-    return currencyRate;
+    return rateSnapshotStore.publish(base, currencyRate);
   }
 
-  public Double getRateForBaseToSymbol(String base, String symbol) throws BadExchangeApiResponseException,
-          SymbolExchangeApiNotFoundException {
-    CurrencyRate rates = getRatesForBase(base);
+  public Double getRateForBaseToSymbol(RateSnapshot rates, String symbol) throws SymbolExchangeApiNotFoundException {
+    Map<String, Double> quotes = rates.getQuotes();
 
-    Double rate = rates.getQuotes().get(base + symbol);
+    Double rate = quotes.get(rates.getBase() + symbol);
     if (rate == null) {
-      LOGGER.error("Bad request! Provided symbol {} is not found from received quotes {}.", symbol, rates.getQuotes());
+      LOGGER.error("Bad request! Provided symbol {} is not found from received quotes {}.", symbol, quotes);
       throw new SymbolExchangeApiNotFoundException("Provided currency symbol " + symbol + " is not found in received " +
               "quotes from Exchange API!");
     }
-    return rates.getQuotes().get(base + symbol);
+    return rate;
   }
 
-  public Double convertValue(String base, String symbol, Double amount) throws BadExchangeApiResponseException,
-          SymbolExchangeApiNotFoundException {
-    Double rate = getRateForBaseToSymbol(base, symbol);
+  public Double convertValue(RateSnapshot rates, String symbol, Double amount)
+          throws SymbolExchangeApiNotFoundException {
+    Double rate = getRateForBaseToSymbol(rates, symbol);
     return rate * amount;
   }
 
-  public Map<String, Double> convertToMultipleCurrencies(String base, List<String> symbols, Double amount)
-          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+  public Map<String, Double> convertToMultipleCurrencies(RateSnapshot rates, List<String> symbols, Double amount)
+          throws SymbolExchangeApiNotFoundException {
     Map<String, Double> convertedValues = new HashMap<>();
-    CurrencyRate rates = getRatesForBase(base);
+    Map<String, Double> quotes = rates.getQuotes();
 
     for (String symbol : symbols) {
-      Double rate = rates.getQuotes().get(base + symbol);
+      Double rate = quotes.get(rates.getBase() + symbol);
       if (rate == null) {
-        LOGGER.error("Bad request! Provided symbol {} is not found from received quotes {}.", symbol, rates.getQuotes());
+        LOGGER.error("Bad request! Provided symbol {} is not found from received quotes {}.", symbol, quotes);
         throw new SymbolExchangeApiNotFoundException("Provided currency symbol " + symbol + " is not found in " +
                 "received quotes from Exchange API!");
       }
@@ -80,4 +86,14 @@ public class ExchangeService {
 
     return convertedValues;
   }
-}
\ No newline at end of file
+
+  public RateSnapshot getPinnedRatesForBase(String base, long version) throws SnapshotVersionNotFoundException {
+    RateSnapshot pinned = rateSnapshotStore.get(base, version);
+    if (pinned == null) {
+      LOGGER.error("Bad request! Rates snapshot version {} for base currency {} is not available.", version, base);
+      throw new SnapshotVersionNotFoundException("Rates snapshot version " + version + " for base currency " + base +
+              " is not available anymore! Request the rates again without pinning a version.");
+    }
+    return pinned;
+  }
+}
@@ -0,0 +1,88 @@
+package com.bvc.exchange.service;
+
+import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@code capacity} most recent rate snapshots of every base currency in a fixed size ring per base.
+ * Snapshots fill their base ring in publishing order, so a snapshot is only evicted after {@code capacity} newer
+ * snapshots of the same base were published, whatever is published for the other bases. Lookups are lock-free and
+ * never copy the quotes.
+ *
+ * <p>Versions are global and monotonic. The counter is seeded from the start time of the process, so a version pinned
+ * against a previous run, or against another instance, is not found instead of silently matching another snapshot.
+ */
+@Component
+public class RateSnapshotStore {
+
+  private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+  private final int capacity;
+  private final LongSupplier nextVersion;
+
+  @Autowired
+  public RateSnapshotStore(@Value("${exchange.snapshots.capacity:8}") int capacity) {
+    this(capacity, new AtomicLong(System.currentTimeMillis() << 20)::incrementAndGet);
+  }
+
+  RateSnapshotStore(int capacity, LongSupplier nextVersion) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Snapshot capacity must be positive, but was " + capacity + "!");
+    }
+    this.capacity = capacity;
+    this.nextVersion = nextVersion;
+  }
+
+  /**
+   * Stores the given rates as a new snapshot of the base. If a concurrent publisher already stored a newer snapshot
+   * in the slot taken by this one, the rates are published again under a fresh version and slot, so the returned
+   * version can always be pinned until {@code capacity} newer snapshots of the same base evict it.
+   */
+  public RateSnapshot publish(String base, CurrencyRate rates) {
+    Ring ring = rings.computeIfAbsent(base, key -> new Ring(capacity));
+
+    while (true) {
+      int slot = (int) Math.floorMod(ring.head.getAndIncrement(), (long) capacity);
+      RateSnapshot snapshot = new RateSnapshot(nextVersion.getAsLong(), base, rates);
+
+      RateSnapshot current = ring.slots.get(slot);
+      while (current == null || current.getVersion() < snapshot.getVersion()) {
+        if (ring.slots.compareAndSet(slot, current, snapshot)) {
+          return snapshot;
+        }
+        current = ring.slots.get(slot);
+      }
+    }
+  }
+
+  public RateSnapshot get(String base, long version) {
+    Ring ring = rings.get(base);
+    if (ring == null) {
+      return null;
+    }
+    for (int slot = 0; slot < capacity; slot++) {
+      RateSnapshot snapshot = ring.slots.get(slot);
+      if (snapshot != null && snapshot.getVersion() == version) {
+        return snapshot;
+      }
+    }
+    return null;
+  }
+
+  private static final class Ring {
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicReferenceArray<RateSnapshot> slots;
+
+    private Ring(int capacity) {
+      this.slots = new AtomicReferenceArray<>(capacity);
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package com.bvc.exchange.controller;
 
 import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
 import com.bvc.exchange.exception.SymbolExchangeApiNotFoundException;
 import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
 import com.bvc.exchange.service.ExchangeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +33,8 @@ class ExchangeControllerTest {
 
   private CurrencyRate mockCurrencyRate;
 
+  private RateSnapshot mockRateSnapshot;
+
   @BeforeEach
   void setUp() {
     mockCurrencyRate = new CurrencyRate();
@@ -38,60 +42,84 @@ class ExchangeControllerTest {
     quotes.put("USDEUR", 0.85);
     quotes.put("USDGBP", 0.75);
     mockCurrencyRate.setQuotes(quotes);
+    mockRateSnapshot = new RateSnapshot(7L, "USD", mockCurrencyRate);
   }
 
   @Test
   void testGetRate_shouldReturnExpectedRate_whenServiceReturnsRate()
-    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
+    // before
+    when(exchangeService.getRatesForBase("USD")).thenReturn(mockRateSnapshot);
+    when(exchangeService.getRateForBaseToSymbol(mockRateSnapshot, "EUR")).thenReturn(0.85);
+
+    // when
+    ResponseEntity<Double> response = exchangeController.getRate("USD", "EUR", null);
+
+    // then
+    assertEquals(0.85, response.getBody());
+    assertEquals("7", response.getHeaders().getFirst(ExchangeApi.SNAPSHOT_VERSION_HEADER));
+  }
+
+  @Test
+  void testGetRate_shouldUsePinnedSnapshot_whenVersionIsProvided()
+    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
     // before
-    when(exchangeService.getRateForBaseToSymbol(anyString(), anyString())).thenReturn(0.85);
+    when(exchangeService.getPinnedRatesForBase("USD", 7L)).thenReturn(mockRateSnapshot);
+    when(exchangeService.getRateForBaseToSymbol(mockRateSnapshot, "EUR")).thenReturn(0.85);
 
     // when
-    ResponseEntity<Double> response = exchangeController.getRate("USD", "EUR");
+    ResponseEntity<Double> response = exchangeController.getRate("USD", "EUR", 7L);
 
     // then
     assertEquals(0.85, response.getBody());
+    assertEquals("7", response.getHeaders().getFirst(ExchangeApi.SNAPSHOT_VERSION_HEADER));
   }
 
   @Test
   void testGetAllExchangeRates_shouldReturnExpectedRates_whenServiceReturnsRates()
-    throws BadExchangeApiResponseException {
+    throws BadExchangeApiResponseException, SnapshotVersionNotFoundException {
     // before
-    when(exchangeService.getRatesForBase(anyString())).thenReturn(mockCurrencyRate);
+    when(exchangeService.getRatesForBase(anyString())).thenReturn(mockRateSnapshot);
 
     // when
-    ResponseEntity<CurrencyRate> response = exchangeController.getAllExchangeRates("USD");
+    ResponseEntity<CurrencyRate> response = exchangeController.getAllExchangeRates("USD", null);
 
     // then
     assertEquals(mockCurrencyRate, response.getBody());
+    assertEquals("7", response.getHeaders().getFirst(ExchangeApi.SNAPSHOT_VERSION_HEADER));
   }
 
   @Test
   void testConvert_shouldReturnExpectedConversion_whenServiceReturnsConversion()
-    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
     // before
-    when(exchangeService.convertValue(anyString(), anyString(), anyDouble())).thenReturn(85.0);
+    when(exchangeService.getRatesForBase(anyString())).thenReturn(mockRateSnapshot);
+    when(exchangeService.convertValue(eq(mockRateSnapshot), anyString(), anyDouble())).thenReturn(85.0);
 
     // when
-    ResponseEntity<Double> response = exchangeController.convert("USD", "EUR", 100.0);
+    ResponseEntity<Double> response = exchangeController.convert("USD", "EUR", 100.0, null);
 
     // then
     assertEquals(85.0, response.getBody());
+    assertEquals("7", response.getHeaders().getFirst(ExchangeApi.SNAPSHOT_VERSION_HEADER));
   }
 
   @Test
   void testConvertToMultipleCurrencies_shouldReturnExpectedConversions_whenServiceReturnsConversions()
-    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+    throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException, SnapshotVersionNotFoundException {
     // before
     Map<String, Double> conversions = new HashMap<>();
     conversions.put("EUR", 85.0);
     conversions.put("GBP", 75.0);
-    when(exchangeService.convertToMultipleCurrencies(anyString(), anyList(), anyDouble())).thenReturn(conversions);
+    when(exchangeService.getPinnedRatesForBase("USD", 7L)).thenReturn(mockRateSnapshot);
+    when(exchangeService.convertToMultipleCurrencies(eq(mockRateSnapshot), anyList(), anyDouble()))
+        .thenReturn(conversions);
 
     // when
-    ResponseEntity<Map<String, Double>> response = exchangeController.convertToMultipleCurrencies("USD", Arrays.asList("EUR", "GBP"), 100.0);
+    ResponseEntity<Map<String, Double>> response = exchangeController.convertToMultipleCurrencies("USD", Arrays.asList("EUR", "GBP"), 100.0, 7L);
 
     // then
     assertEquals(conversions, response.getBody());
+    assertEquals("7", response.getHeaders().getFirst(ExchangeApi.SNAPSHOT_VERSION_HEADER));
   }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.bvc.exchange.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
+import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.client.RestTemplate;
+
+@SpringBootTest(properties = {
+    "exchange.api.liveUrl=http://localhost/live",
+    "exchange.api.accessKey=test",
+    "exchange.snapshots.capacity=2"
+})
+class ExchangeServiceCachingTest {
+
+  @Autowired
+  private ExchangeService exchangeService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @MockBean
+  private RestTemplate restTemplate;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCache("exchangeRates").clear();
+    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
+        .thenAnswer(invocation -> createMockCurrencyRate());
+  }
+
+  @Test
+  public void testGetPinnedRatesForBase_shouldReturnCachedSnapshot_whenOtherBasesPublishMoreThanCapacity()
+          throws BadExchangeApiResponseException, SnapshotVersionNotFoundException {
+    // before
+    RateSnapshot served = exchangeService.getRatesForBase("USD");
+    for (int i = 0; i < 10; i++) {
+      exchangeService.getRatesForBase("BASE" + i);
+    }
+
+    // when
+    RateSnapshot servedAgain = exchangeService.getRatesForBase("USD");
+    RateSnapshot pinned = exchangeService.getPinnedRatesForBase("USD", servedAgain.getVersion());
+
+    // then
+    assertSame(served, servedAgain);
+    assertSame(served, pinned);
+    verify(restTemplate, times(1)).getForObject(contains("source=USD"), eq(CurrencyRate.class));
+  }
+
+  @Test
+  public void testGetPinnedRatesForBase_shouldReturnCachedSnapshot_whenBaseIsRefreshedMoreThanCapacity()
+          throws BadExchangeApiResponseException, SnapshotVersionNotFoundException {
+    // before
+    RateSnapshot first = exchangeService.getRatesForBase("USD");
+    for (int i = 0; i < 3; i++) {
+      cacheManager.getCache("exchangeRates").evict("USD");
+      exchangeService.getRatesForBase("USD");
+    }
+
+    // when
+    RateSnapshot served = exchangeService.getRatesForBase("USD");
+
+    // then
+    assertSame(served, exchangeService.getPinnedRatesForBase("USD", served.getVersion()));
+    assertThrows(SnapshotVersionNotFoundException.class,
+            () -> exchangeService.getPinnedRatesForBase("USD", first.getVersion()));
+  }
+
+  private CurrencyRate createMockCurrencyRate() {
+    CurrencyRate currencyRate = new CurrencyRate();
+    Map<String, Double> quotes = new HashMap<>();
+    quotes.put("USDEUR", 0.85);
+    quotes.put("USDGBP", 0.75);
+    currencyRate.setQuotes(quotes);
+    return currencyRate;
+  }
+}
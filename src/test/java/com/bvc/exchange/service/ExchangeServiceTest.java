@@ -3,6 +3,7 @@ package com.bvc.exchange.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import ch.qos.logback.classic.Level;
@@ -10,8 +11,10 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import com.bvc.exchange.exception.BadExchangeApiResponseException;
+import com.bvc.exchange.exception.SnapshotVersionNotFoundException;
 import com.bvc.exchange.exception.SymbolExchangeApiNotFoundException;
 import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -20,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.client.RestTemplate;
@@ -34,6 +38,9 @@ class ExchangeServiceTest {
   @Mock
   private RestTemplate restTemplate;
 
+  @Spy
+  private RateSnapshotStore rateSnapshotStore = new RateSnapshotStore(4);
+
   @Test
   public void testGetRatesForBase_shouldReturnExpectedRates_whenApiReturnsRates()
           throws BadExchangeApiResponseException {
@@ -45,10 +52,83 @@ class ExchangeServiceTest {
         .thenReturn(mockRate);
 
     // when
-    CurrencyRate result = exchangeService.getRatesForBase(base);
+    RateSnapshot result = exchangeService.getRatesForBase(base);
+
+    // then
+    assertEquals(mockRate, result.toCurrencyRate());
+    assertEquals(base, result.getBase());
+    assertSame(result, rateSnapshotStore.get(base, result.getVersion()));
+  }
+
+  @Test
+  public void testGetRatesForBase_shouldKeepOtherSymbols_whenApiReturnsNullQuote()
+          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+    // before
+    CurrencyRate mockRate = createMockCurrencyRate();
+    mockRate.getQuotes().put("USDXYZ", null);
+
+    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
+        .thenReturn(mockRate);
+
+    // when
+    RateSnapshot result = exchangeService.getRatesForBase("USD");
 
     // then
-    assertEquals(mockRate, result);
+    assertEquals(85.0, exchangeService.convertValue(result, "EUR", 100.0));
+    assertThrows(SymbolExchangeApiNotFoundException.class,
+            () -> exchangeService.getRateForBaseToSymbol(result, "XYZ"));
+  }
+
+  @Test
+  public void testGetPinnedRatesForBase_shouldReturnPinnedSnapshot_whenVersionIsKept()
+          throws SnapshotVersionNotFoundException {
+    // before
+    RateSnapshot published = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+
+    // when
+    RateSnapshot result = exchangeService.getPinnedRatesForBase("USD", published.getVersion());
+
+    // then
+    assertSame(published, result);
+    verifyNoInteractions(restTemplate);
+  }
+
+  @Test
+  public void testGetPinnedRatesForBase_shouldThrowSnapshotVersionNotFoundException_whenVersionIsEvicted() {
+    // before
+    ListAppender<ILoggingEvent> logAppender = initLogAppender();
+    RateSnapshot evicted = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+    for (int i = 0; i < 4; i++) {
+      rateSnapshotStore.publish("USD", createMockCurrencyRate());
+    }
+
+    // when
+    Exception acxtualException = assertThrows(SnapshotVersionNotFoundException.class,
+            () -> exchangeService.getPinnedRatesForBase("USD", evicted.getVersion()));
+
+    // then
+    assertTrue(acxtualException.getMessage().contains("Rates snapshot version " + evicted.getVersion() +
+            " for base currency USD is not available anymore!"));
+    assertEquals(1, logAppender.list.size());
+    assertEquals(Level.ERROR, logAppender.list.get(0).getLevel());
+    verifyNoInteractions(restTemplate);
+
+    // after
+    logger.detachAppender(logAppender);
+  }
+
+  @Test
+  public void testGetPinnedRatesForBase_shouldThrowSnapshotVersionNotFoundException_whenVersionHasOtherBase() {
+    // before
+    RateSnapshot published = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+
+    // when
+    Exception acxtualException = assertThrows(SnapshotVersionNotFoundException.class,
+            () -> exchangeService.getPinnedRatesForBase("EUR", published.getVersion()));
+
+    // then
+    assertTrue(acxtualException.getMessage().contains("Rates snapshot version " + published.getVersion() +
+            " for base currency EUR is not available anymore!"));
   }
 
   @Test
@@ -131,17 +211,15 @@ class ExchangeServiceTest {
 
   @Test
   public void testGetRateForBaseToSymbol_shouldReturnExpectedRate_whenApiReturnsRates()
-          throws BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+          throws SymbolExchangeApiNotFoundException {
     // before
     String base = "USD";
     String symbol = "EUR";
     CurrencyRate mockRate = createMockCurrencyRate();
-
-    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
-        .thenReturn(mockRate);
+    RateSnapshot rates = new RateSnapshot(1L, base, mockRate);
 
     // when
-    Double result = exchangeService.getRateForBaseToSymbol(base, symbol);
+    Double result = exchangeService.getRateForBaseToSymbol(rates, symbol);
 
     // then
     Double expectedRate = mockRate.getQuotes().get(base + symbol);
@@ -155,13 +233,11 @@ class ExchangeServiceTest {
     String base = "USD";
     String symbol = "JPY";
     CurrencyRate mockRate = createMockCurrencyRate();
-
-    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
-            .thenReturn(mockRate);
+    RateSnapshot rates = new RateSnapshot(1L, base, mockRate);
 
     // when
     Exception acxtualException = assertThrows(SymbolExchangeApiNotFoundException.class,
-            () -> exchangeService.getRateForBaseToSymbol(base, symbol));
+            () -> exchangeService.getRateForBaseToSymbol(rates, symbol));
 
     // then
     String expectedMessage = "Provided currency symbol " + symbol + " is not found in received quotes from Exchange API!";
@@ -170,26 +246,24 @@ class ExchangeServiceTest {
     assertEquals(Level.ERROR, logAppender.list.get(0).getLevel());
     assertTrue(logAppender.list.get(0).getFormattedMessage()
             .contains("Bad request! Provided symbol " + symbol + " is not found from received quotes " +
-                    mockRate.getQuotes() + "."));
+                    rates.getQuotes() + "."));
 
     // after
     logger.detachAppender(logAppender);
   }
 
   @Test
-  public void testConvertValue_shouldReturnConvertedValue_whenApiReturnsRates() throws BadExchangeApiResponseException,
-          SymbolExchangeApiNotFoundException {
+  public void testConvertValue_shouldReturnConvertedValue_whenApiReturnsRates()
+          throws SymbolExchangeApiNotFoundException {
     // before
     String base = "USD";
     String symbol = "EUR";
     Double amount = 100.0;
     CurrencyRate mockRate = createMockCurrencyRate();
-
-    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
-        .thenReturn(mockRate);
+    RateSnapshot rates = new RateSnapshot(1L, base, mockRate);
 
     // when
-    Double result = exchangeService.convertValue(base, symbol, amount);
+    Double result = exchangeService.convertValue(rates, symbol, amount);
 
     // then
     Double expectedConversion = mockRate.getQuotes().get(base + symbol) * amount;
@@ -197,18 +271,16 @@ class ExchangeServiceTest {
   }
 
   @Test
-  public void testConvertToMultipleCurrencies_shouldReturnConvertedCurrencies_whenApiReturnsRates() throws
-          BadExchangeApiResponseException, SymbolExchangeApiNotFoundException {
+  public void testConvertToMultipleCurrencies_shouldReturnConvertedCurrencies_whenApiReturnsRates()
+          throws SymbolExchangeApiNotFoundException {
     // before
     String base = "USD";
     Double amount = 100.0;
     CurrencyRate mockRate = createMockCurrencyRate();
-
-    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
-        .thenReturn(mockRate);
+    RateSnapshot rates = new RateSnapshot(1L, base, mockRate);
 
     // when
-    Map<String, Double> result = exchangeService.convertToMultipleCurrencies(base, Arrays.asList("EUR", "GBP"), amount);
+    Map<String, Double> result = exchangeService.convertToMultipleCurrencies(rates, Arrays.asList("EUR", "GBP"), amount);
 
     // then
     Map<String, Double> expectedConversion = new HashMap<>();
@@ -225,13 +297,11 @@ class ExchangeServiceTest {
     String base = "USD";
     Double amount = 100.0;
     CurrencyRate mockRate = createMockCurrencyRate();
-
-    when(restTemplate.getForObject(anyString(), eq(CurrencyRate.class)))
-            .thenReturn(mockRate);
+    RateSnapshot rates = new RateSnapshot(1L, base, mockRate);
 
     // when
     Exception acxtualException = assertThrows(SymbolExchangeApiNotFoundException.class,
-            () -> exchangeService.convertToMultipleCurrencies(base, Arrays.asList("EUR", "JPY"), amount));
+            () -> exchangeService.convertToMultipleCurrencies(rates, Arrays.asList("EUR", "JPY"), amount));
 
     // then
     String expectedMessage = "Provided currency symbol JPY is not found in received quotes from Exchange API!";
@@ -239,7 +309,7 @@ class ExchangeServiceTest {
     assertEquals(1, logAppender.list.size());
     assertEquals(Level.ERROR, logAppender.list.get(0).getLevel());
     assertTrue(logAppender.list.get(0).getFormattedMessage()
-            .contains("Bad request! Provided symbol JPY is not found from received quotes " + mockRate.getQuotes() + "."));
+            .contains("Bad request! Provided symbol JPY is not found from received quotes " + rates.getQuotes() + "."));
 
     // after
     logger.detachAppender(logAppender);
@@ -0,0 +1,174 @@
+package com.bvc.exchange.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.bvc.exchange.model.CurrencyRate;
+import com.bvc.exchange.model.RateSnapshot;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class RateSnapshotStoreTest {
+
+  private final RateSnapshotStore rateSnapshotStore = new RateSnapshotStore(2);
+
+  @Test
+  public void testPublish_shouldAssignIncreasingVersions() {
+    // when
+    RateSnapshot first = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+    RateSnapshot second = rateSnapshotStore.publish("EUR", createMockCurrencyRate());
+
+    // then
+    assertTrue(second.getVersion() > first.getVersion());
+    assertEquals("EUR", second.getBase());
+  }
+
+  @Test
+  public void testGet_shouldReturnPublishedSnapshot_whenVersionIsStillKept() {
+    // before
+    RateSnapshot published = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+
+    // when
+    RateSnapshot result = rateSnapshotStore.get("USD", published.getVersion());
+
+    // then
+    assertSame(published, result);
+  }
+
+  @Test
+  public void testGet_shouldReturnNull_whenVersionIsEvictedOrUnknown() {
+    // before
+    RateSnapshot evicted = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+    rateSnapshotStore.publish("USD", createMockCurrencyRate());
+    rateSnapshotStore.publish("USD", createMockCurrencyRate());
+
+    // then
+    assertNull(rateSnapshotStore.get("USD", evicted.getVersion()));
+    assertNull(rateSnapshotStore.get("USD", 42L));
+    assertNull(rateSnapshotStore.get("USD", -1L));
+    assertNull(rateSnapshotStore.get("EUR", evicted.getVersion()));
+  }
+
+  @Test
+  public void testGet_shouldKeepLatestSnapshotOfBase_whenOtherBasesPublishMoreThanCapacity() {
+    // before
+    RateSnapshot latestUsd = rateSnapshotStore.publish("USD", createMockCurrencyRate());
+    for (int i = 0; i < 10; i++) {
+      rateSnapshotStore.publish("BASE" + i, createMockCurrencyRate());
+      rateSnapshotStore.publish("EUR", createMockCurrencyRate());
+    }
+
+    // when
+    RateSnapshot result = rateSnapshotStore.get("USD", latestUsd.getVersion());
+
+    // then
+    assertSame(latestUsd, result);
+  }
+
+  @Test
+  public void testGet_shouldKeepLastCapacitySnapshotsOfEachBase_whenBasesPublishInterleaved() {
+    // before
+    List<RateSnapshot> usd = new ArrayList<>();
+    List<RateSnapshot> eur = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      usd.add(rateSnapshotStore.publish("USD", createMockCurrencyRate()));
+      eur.add(rateSnapshotStore.publish("EUR", createMockCurrencyRate()));
+    }
+
+    // then
+    for (int i = 0; i < 5; i++) {
+      RateSnapshot expectedUsd = i >= 3 ? usd.get(i) : null;
+      RateSnapshot expectedEur = i >= 3 ? eur.get(i) : null;
+      assertSame(expectedUsd, rateSnapshotStore.get("USD", usd.get(i).getVersion()));
+      assertSame(expectedEur, rateSnapshotStore.get("EUR", eur.get(i).getVersion()));
+    }
+  }
+
+  @Test
+  public void testPublish_shouldStartVersionsFromProcessStartTime() {
+    // before
+    long startTime = System.currentTimeMillis();
+
+    // when
+    RateSnapshot published = new RateSnapshotStore(2).publish("USD", createMockCurrencyRate());
+
+    // then
+    assertTrue(published.getVersion() > startTime << 20);
+  }
+
+  @Test
+  public void testPublish_shouldRetryWithFreshVersion_whenNewerSnapshotTookTheSlot() {
+    // before
+    AtomicLong versions = new AtomicLong();
+    AtomicReference<RateSnapshotStore> store = new AtomicReference<>();
+    AtomicReference<RateSnapshot> concurrent = new AtomicReference<>();
+    // version 1 is handed out, but version 3 gets published in the same slot before version 1 is stored
+    store.set(new RateSnapshotStore(1, () -> {
+      long version = versions.incrementAndGet();
+      if (version == 1) {
+        versions.set(2);
+        concurrent.set(store.get().publish("USD", createMockCurrencyRate()));
+      }
+      return version;
+    }));
+
+    // when
+    RateSnapshot result = store.get().publish("USD", createMockCurrencyRate());
+
+    // then
+    assertEquals(3L, concurrent.get().getVersion());
+    assertEquals(4L, result.getVersion());
+    assertSame(result, store.get().get("USD", result.getVersion()));
+    assertNull(store.get().get("USD", 1L));
+  }
+
+  @Test
+  public void testPublish_shouldKeepImmutableQuotes() {
+    // before
+    CurrencyRate currencyRate = createMockCurrencyRate();
+    RateSnapshot published = rateSnapshotStore.publish("USD", currencyRate);
+
+    // when
+    currencyRate.getQuotes().put("USDJPY", 150.0);
+    published.toCurrencyRate().setQuotes(new HashMap<>());
+
+    // then
+    assertEquals(createMockCurrencyRate().getQuotes(), published.getQuotes());
+    assertThrows(UnsupportedOperationException.class, () -> published.getQuotes().put("USDJPY", 150.0));
+    assertThrows(UnsupportedOperationException.class,
+            () -> published.toCurrencyRate().getQuotes().put("USDJPY", 150.0));
+  }
+
+  @Test
+  public void testPublish_shouldKeepNullQuotes_whenApiReturnsThem() {
+    // before
+    CurrencyRate currencyRate = createMockCurrencyRate();
+    currencyRate.getQuotes().put("USDXYZ", null);
+
+    // when
+    RateSnapshot published = rateSnapshotStore.publish("USD", currencyRate);
+
+    // then
+    assertEquals(0.85, published.getQuotes().get("USDEUR"));
+    assertNull(published.getQuotes().get("USDXYZ"));
+  }
+
+  @Test
+  public void testConstructor_shouldThrowIllegalArgumentException_whenCapacityIsNotPositive() {
+    assertThrows(IllegalArgumentException.class, () -> new RateSnapshotStore(0));
+  }
+
+  private CurrencyRate createMockCurrencyRate() {
+    CurrencyRate currencyRate = new CurrencyRate();
+    Map<String, Double> quotes = new HashMap<>();
+    quotes.put("USDEUR", 0.85);
+    quotes.put("USDGBP", 0.75);
+    currencyRate.setQuotes(quotes);
+    return currencyRate;
+  }
+}